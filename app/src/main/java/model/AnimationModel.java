@@ -13,7 +13,8 @@ import com.example.marshal.animationlab.R;
 
 /**
  * This class is used to define an AnimationModel which holds the code to describe the movement of
- * spacecraft and draw the result to a canvas object.
+ * spacecraft and draw the result to a canvas object. The movement is calculated in world units and
+ * mapped to the surface by a WorldTransform computed whenever the surface size changes.
  *
  * @author Shuai Yuan
  * @version 1.1
@@ -24,19 +25,33 @@ public class AnimationModel {
     public final int GRAVITY = 1;
     public final double TIME_INCREMENT = 0.02;
 
-    private int INIT_POS_X;
+    private int INIT_POS_X = WorldTransform.WORLD_WIDTH / 2 - CRAFT_WIDTH / 2;   //Centered in the game field.
     private int INIT_POS_Y = 0;
     private int INIT_SPEED_X = 0;
     private int INIT_SPEED_Y = 0;
 
+    // Footprint of the spacecraft in world units, measured from its top left corner.
+    private static final int CRAFT_WIDTH = 94;
+    private static final int CRAFT_FOOT_LEFT = 5;
+    private static final int CRAFT_FOOT_RIGHT = 89;
+    private static final int CRAFT_FOOT_BOTTOM = 92;
+
+    // World units covered by one pixel of the sprite images.
+    private static final float SPRITE_SCALE = 2.0f;
+
     int xcor[] = { 0, 686, 686, 577, 548, 526, 512, 498, 382, 368, 336, 327,
             309, 298, 275, 260, 218, 190, 150, 0, 0 };
     int ycor[] = { 0, 0, 450, 605, 605, 594, 530, 520, 520, 527, 626, 636,
             636, 623, 535, 504, 481, 481, 650, 650, 0 };
 
     private Path mPath;
+    private Bitmap craftSource, leftSource, rightSource, mainSource, explosionSource, wreckageSource;
     private Bitmap craftImage, leftThruster, rightThruster, mainEngine, explosionImage, wreckageImage;
-    private int craftPosX, craftPoxY, bottomLeftX, bottomRightX, bottom, screenWidth;
+    private Bitmap terrainLayer;
+    private WorldTransform transform;
+    private int craftPosX, craftPoxY, bottomLeftX, bottomRightX, bottom, screenWidth, screenHeight;
+    private int prevPosX, prevPosY;
+    private float drawPosX, drawPosY;
     private float craftSpeedX, craftSpeedY;
     private float time;
 
@@ -49,6 +64,10 @@ public class AnimationModel {
     private boolean flameRight = false;
     private boolean flameMain = false;
     private float flameTimer, explorTimer = 0;
+    private static final float EFFECT_STEP = 0.05f;   //Timer advance per simulation step.
+
+    private boolean wrapAroundEffects = true;
+    private int maxFlames = 3;
 
     private Paint backgroundPaint = new Paint();
 
@@ -60,13 +79,17 @@ public class AnimationModel {
     public AnimationModel(Context context) {
         super();
 
-        craftImage = BitmapFactory.decodeResource(context.getResources(), R.drawable.craftmain);
-        leftThruster = BitmapFactory.decodeResource(context.getResources(), R.drawable.left_thruster);
-        rightThruster = BitmapFactory.decodeResource(context.getResources(), R.drawable.right_thruster);
-        mainEngine = BitmapFactory.decodeResource(context.getResources(), R.drawable.main_engine);
-        explosionImage = BitmapFactory.decodeResource(context.getResources(), R.drawable.explosion);
-        wreckageImage = BitmapFactory.decodeResource(context.getResources(), R.drawable.wreckage);
-        craftPoxY = INIT_POS_Y;
+        //Decode the images at their original size, they are scaled to the surface in setScreenSize().
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inScaled = false;
+        craftSource = BitmapFactory.decodeResource(context.getResources(), R.drawable.craftmain, options);
+        leftSource = BitmapFactory.decodeResource(context.getResources(), R.drawable.left_thruster, options);
+        rightSource = BitmapFactory.decodeResource(context.getResources(), R.drawable.right_thruster, options);
+        mainSource = BitmapFactory.decodeResource(context.getResources(), R.drawable.main_engine, options);
+        explosionSource = BitmapFactory.decodeResource(context.getResources(), R.drawable.explosion, options);
+        wreckageSource = BitmapFactory.decodeResource(context.getResources(), R.drawable.wreckage, options);
+        craftPosX = prevPosX = INIT_POS_X;
+        craftPoxY = prevPosY = INIT_POS_Y;
         craftSpeedX = INIT_SPEED_X;
         craftSpeedY = INIT_SPEED_Y;
 
@@ -77,7 +100,13 @@ public class AnimationModel {
      * This method is used to describe the movement of spacecraft by calculating the (x, y) position.
      */
     public void move() {
+        //Hold the spacecraft until the surface size is known and it can be drawn.
+        if (transform == null) {
+            return;
+        }
 
+        prevPosX = craftPosX;
+        prevPosY = craftPoxY;
         getBottom();
 
         //  Collision detection
@@ -90,6 +119,13 @@ public class AnimationModel {
             craftPosX += craftSpeedX;
             craftPoxY += (int) ((craftSpeedY * time) + (0.5 * GRAVITY * time * time));
         }
+        //  Advance the flame and explosion timers per simulation step, so they last as long at any frame rate.
+        else if (explorTimer < 1) {
+            explorTimer += EFFECT_STEP;
+        }
+        if (flameTimer < 1) {
+            flameTimer += EFFECT_STEP;
+        }
     }
 
     /**
@@ -98,34 +134,42 @@ public class AnimationModel {
      * to the opposite side of the game field.
      */
     private void getBottom() {
-        bottomLeftX = craftPosX + 5;
-        bottomRightX = craftPosX + 89;
-        if (bottomLeftX < 0) {
-            bottomLeftX += screenWidth;
-            if (bottomRightX < 0){
-                bottomRightX += screenWidth;
-            }
-        }
-        if (bottomRightX > screenWidth) {
-            bottomRightX -= screenWidth;
-            if (bottomLeftX > screenWidth) {
-                bottomLeftX -= screenWidth;
-            }
-        }
-        bottom = craftPoxY + 92;
+        bottomLeftX = WorldTransform.wrapX(craftPosX + CRAFT_FOOT_LEFT);
+        bottomRightX = WorldTransform.wrapX(craftPosX + CRAFT_FOOT_RIGHT);
+        bottom = craftPoxY + CRAFT_FOOT_BOTTOM;
     }
 
     /**
      * This method is used to draw the result to a canvas object.
      * @param canvas This is an Canvas parameter to which the result will be drawn.
+     * @param interpolation This is a float parameter between 0 and 1 to draw the flying spacecraft between
+     *                      its position before and after the last simulation step, 1 drawing the latest position.
      */
-    public void draw(Canvas canvas) {
+    public void draw(Canvas canvas, float interpolation) {
+        if (terrainLayer == null) {
+            return;
+        }
+        drawPosX = prevPosX + (craftPosX - prevPosX) * interpolation;
+        drawPosY = prevPosY + (craftPoxY - prevPosY) * interpolation;
 
-        canvas.drawPath(mPath, backgroundPaint);    //Draw the black portion above the terrain.
+        //Draw the black portion above the terrain from the cached layer.
+        canvas.drawBitmap(terrainLayer, 0, 0, null);
+
+        //Keep the spacecraft and its wrap-around copy inside the game field.
+        canvas.save();
+        canvas.clipRect(transform.left, transform.top, transform.right, transform.bottom);
+        drawCraft(canvas);
+        canvas.restore();
+    }
 
+    /**
+     * This method is used to draw the spacecraft, or its landing or crash once it touches the terrain.
+     * @param canvas This is an Canvas parameter to which the result will be drawn.
+     */
+    private void drawCraft(Canvas canvas) {
         if ((bottomLeft && bottomRight) || (bottom <= 0)) {
-            canvas.drawBitmap(craftImage, craftPosX, craftPoxY, null);
-            flameDraw(canvas, craftPosX);   //If user clicks "LEFT", "RIGHT", or "UP" buttons, draw a flame at the given position.
+            canvas.drawBitmap(craftImage, transform.toScreenX(drawPosX), transform.toScreenY(drawPosY), null);
+            flameDraw(canvas, drawPosX);   //If user clicks "LEFT", "RIGHT", or "UP" buttons, draw a flame at the given position.
             drawWrapAround(canvas); //If the spacecraft flies out of the left or right boundary of the game field, draw on the opposite side of the game field.
         }
         //If there's a collision with the terrain, draw the crash or landing.
@@ -149,18 +193,24 @@ public class AnimationModel {
     private void drawWrapAround(Canvas canvas) {
         //The spacecraft flies out of the left boundary.
         if (craftPosX < 0) {
-            canvas.drawBitmap(craftImage, craftPosX + screenWidth, craftPoxY, null);
-            flameDraw(canvas, craftPosX + screenWidth);
-            if ((craftPosX + 94) < 0) {
-                craftPosX += screenWidth;
+            canvas.drawBitmap(craftImage, transform.toScreenX(drawPosX + WorldTransform.WORLD_WIDTH), transform.toScreenY(drawPosY), null);
+            if (wrapAroundEffects) {
+                flameDraw(canvas, drawPosX + WorldTransform.WORLD_WIDTH);
+            }
+            if ((craftPosX + CRAFT_WIDTH) < 0) {
+                craftPosX += WorldTransform.WORLD_WIDTH;
+                prevPosX += WorldTransform.WORLD_WIDTH;
             }
         }
         //The spacecraft flies out of the right boundary.
-        if ((craftPosX + 94) > screenWidth) {
-            canvas.drawBitmap(craftImage, craftPosX - screenWidth, craftPoxY, null);
-            flameDraw(canvas, craftPosX - screenWidth);
-            if (craftPosX > screenWidth) {
-                craftPosX -= screenWidth;
+        if ((craftPosX + CRAFT_WIDTH) > WorldTransform.WORLD_WIDTH) {
+            canvas.drawBitmap(craftImage, transform.toScreenX(drawPosX - WorldTransform.WORLD_WIDTH), transform.toScreenY(drawPosY), null);
+            if (wrapAroundEffects) {
+                flameDraw(canvas, drawPosX - WorldTransform.WORLD_WIDTH);
+            }
+            if (craftPosX > WorldTransform.WORLD_WIDTH) {
+                craftPosX -= WorldTransform.WORLD_WIDTH;
+                prevPosX -= WorldTransform.WORLD_WIDTH;
             }
         }
     }
@@ -170,7 +220,7 @@ public class AnimationModel {
      * @param canvas This is an Canvas parameter to which the spacecraft will be drawn.
      */
     private void craftLand(Canvas canvas) {
-        canvas.drawBitmap(craftImage, craftPosX, craftPoxY, null);
+        canvas.drawBitmap(craftImage, transform.toScreenX(craftPosX), transform.toScreenY(craftPoxY), null);
         landed = true;
     }
 
@@ -181,12 +231,11 @@ public class AnimationModel {
      */
     private void craftCrash(Canvas canvas) {
         if (explorTimer < 1) {
-            canvas.drawBitmap(explosionImage, craftPosX, craftPoxY, null);
-            explorTimer += 0.05;
+            canvas.drawBitmap(explosionImage, transform.toScreenX(craftPosX), transform.toScreenY(craftPoxY), null);
         }
         else {
-            canvas.drawCircle(craftPosX + 60, craftPoxY + 60, 100, backgroundPaint);
-            canvas.drawBitmap(wreckageImage, craftPosX, craftPoxY + 50, null);
+            canvas.drawCircle(transform.toScreenX(craftPosX + 60), transform.toScreenY(craftPoxY + 60), 100 * transform.scale, backgroundPaint);
+            canvas.drawBitmap(wreckageImage, transform.toScreenX(craftPosX), transform.toScreenY(craftPoxY + 50), null);
             crashed = true;
         }
     }
@@ -239,31 +288,36 @@ public class AnimationModel {
 
     /**
      * This method is used to set the position of spacecraft on x direction.
-     * @param posX This is an int parameter as the value on x direction.
+     * @param posX This is an int parameter as the value on x direction in world units.
      */
     public void setPosX(int posX) {
         INIT_POS_X = posX;
-        craftPosX = INIT_POS_X;
+        craftPosX = prevPosX = INIT_POS_X;
     }
 
     /**
      * This method is used to draw a spacecraft with flame.
      * @param canvas This is an Canvas parameter to which the spacecraft will be drawn.
-     * @param positionX This is an int parameter to determine the x position where the spacecraft should be drawn.
+     * @param positionX This is a float parameter to determine the x position in world units where the spacecraft should be drawn.
      */
-    public void flameDraw(Canvas canvas, int positionX) {
+    public void flameDraw(Canvas canvas, float positionX) {
         // Set a timer for the flame to allow the flame last for a short while.
         if (flameTimer < 1) {
-            if (flameMain) {
-                canvas.drawBitmap(mainEngine, positionX, craftPoxY, null);
+            float left = transform.toScreenX(positionX);
+            float top = transform.toScreenY(drawPosY);
+            // Draw at most maxFlames sprites, the main engine first.
+            int flames = 0;
+            if (flameMain && flames < maxFlames) {
+                canvas.drawBitmap(mainEngine, left, top, null);
+                flames++;
             }
-            if (flameLeft) {
-                canvas.drawBitmap(leftThruster, positionX, craftPoxY, null);
+            if (flameLeft && flames < maxFlames) {
+                canvas.drawBitmap(leftThruster, left, top, null);
+                flames++;
             }
-            if (flameRight) {
-                canvas.drawBitmap(rightThruster, positionX, craftPoxY, null);
+            if (flameRight && flames < maxFlames) {
+                canvas.drawBitmap(rightThruster, left, top, null);
             }
-            flameTimer += 0.05;
         }
         else {
             flameMain = false;
@@ -273,7 +327,7 @@ public class AnimationModel {
     }
 
     /**
-     * This method is used to draw a closed polygon to form a terrain
+     * This method is used to draw a closed polygon in world units to form a terrain
      */
     public void initPath() {
 
@@ -283,6 +337,57 @@ public class AnimationModel {
         }
     }
 
+    /**
+     * This method is used to render the terrain path once into a bitmap of the surface size,
+     * so each frame only has to draw a bitmap instead of filling the path again. The area around the
+     * game field is filled as well, so only the game field shows the terrain.
+     */
+    private void initTerrainLayer() {
+        if (terrainLayer != null) {
+            terrainLayer.recycle();
+            terrainLayer = null;
+        }
+        if (mPath == null) {
+            return;
+        }
+        terrainLayer = Bitmap.createBitmap(screenWidth, screenHeight, Bitmap.Config.ARGB_8888);
+        Canvas layerCanvas = new Canvas(terrainLayer);
+        layerCanvas.drawRect(0, 0, transform.left, screenHeight, backgroundPaint);
+        layerCanvas.drawRect(transform.right, 0, screenWidth, screenHeight, backgroundPaint);
+        layerCanvas.drawRect(0, 0, screenWidth, transform.top, backgroundPaint);
+        layerCanvas.drawRect(0, transform.bottom, screenWidth, screenHeight, backgroundPaint);
+        layerCanvas.translate(transform.offsetX, transform.offsetY);
+        layerCanvas.scale(transform.scale, transform.scale);
+        layerCanvas.drawPath(mPath, backgroundPaint);
+    }
+
+    /**
+     * This method is used to scale a sprite image to its size on the surface and recycle the image
+     * it replaces.
+     * @param scaled This is a Bitmap parameter as the image scaled for the previous surface size, or null.
+     * @param source This is a Bitmap parameter as the image at its original size.
+     * @return Bitmap The image scaled by SPRITE_SCALE and the world-to-screen scale.
+     */
+    private Bitmap scaleSprite(Bitmap scaled, Bitmap source) {
+        //createScaledBitmap() returns the source itself when the size is unchanged, which must be kept.
+        if (scaled != null && scaled != source) {
+            scaled.recycle();
+        }
+        int width = Math.max(1, Math.round(source.getWidth() * SPRITE_SCALE * transform.scale));
+        int height = Math.max(1, Math.round(source.getHeight() * SPRITE_SCALE * transform.scale));
+        return Bitmap.createScaledBitmap(source, width, height, true);
+    }
+
+    /**
+     * This method is used to apply the settings of a rendering quality tier.
+     * @param wrapAroundEffects This is a boolean parameter to decide whether flames are drawn on the wrap-around copy.
+     * @param maxFlames This is an int parameter as the maximum number of flame sprites drawn per frame.
+     */
+    public void setQuality(boolean wrapAroundEffects, int maxFlames) {
+        this.wrapAroundEffects = wrapAroundEffects;
+        this.maxFlames = maxFlames;
+    }
+
     /**
      * This method is used to judge whether a given position is within a closed polygon.
      * @param xcor This is an int array parameter to define a closed polygon.
@@ -322,10 +427,27 @@ public class AnimationModel {
     }
 
     /**
-     * This method is used to set the width of the game field.
-     * @param w This is an int parameter as the value of the width.
+     * This method is used to set the size of the surface and compute the world-to-screen transform.
+     * The sprites and the terrain layer, built from the path of initPath(), are then scaled once for the
+     * new size, so no scaling is needed while drawing.
+     * @param w This is an int parameter as the width of the surface.
+     * @param h This is an int parameter as the height of the surface.
      */
-    public void setScreenWidth(int w) {
+    public void setScreenSize(int w, int h) {
+        //A new surface of the same size keeps the images scaled for the previous one.
+        if (w <= 0 || h <= 0 || (w == screenWidth && h == screenHeight && terrainLayer != null)) {
+            return;
+        }
         screenWidth = w;
+        screenHeight = h;
+        transform = new WorldTransform(w, h);
+
+        craftImage = scaleSprite(craftImage, craftSource);
+        leftThruster = scaleSprite(leftThruster, leftSource);
+        rightThruster = scaleSprite(rightThruster, rightSource);
+        mainEngine = scaleSprite(mainEngine, mainSource);
+        explosionImage = scaleSprite(explosionImage, explosionSource);
+        wreckageImage = scaleSprite(wreckageImage, wreckageSource);
+        initTerrainLayer();
     }
 }
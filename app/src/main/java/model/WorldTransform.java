@@ -0,0 +1,68 @@
+package model;
+
+/**
+ * This class is used to define the mapping from the world units of the game field to the pixels of
+ * the surface. The field is scaled uniformly to fit the surface and centered on it, which leaves bars
+ * on the left and right of a wide surface, or above and below the field on a tall one.
+ */
+public class WorldTransform {
+
+    public static final int WORLD_WIDTH = 686;
+    public static final int WORLD_HEIGHT = 650;
+
+    public final float scale;
+    public final float offsetX, offsetY;
+    public final int left, top, right, bottom;
+
+    /**
+     * This constructor method is used to compute the transform for a surface of the given size.
+     * @param screenWidth This is an int parameter as the width of the surface.
+     * @param screenHeight This is an int parameter as the height of the surface.
+     */
+    public WorldTransform(int screenWidth, int screenHeight) {
+        if (screenWidth <= 0 || screenHeight <= 0) {
+            throw new IllegalArgumentException("Surface size must be positive: " + screenWidth + " x " + screenHeight);
+        }
+        scale = Math.min((float) screenWidth / WORLD_WIDTH, (float) screenHeight / WORLD_HEIGHT);
+        offsetX = (screenWidth - WORLD_WIDTH * scale) / 2;
+        offsetY = (screenHeight - WORLD_HEIGHT * scale) / 2;
+        left = Math.round(offsetX);
+        top = Math.round(offsetY);
+        right = Math.round(offsetX + WORLD_WIDTH * scale);
+        bottom = Math.round(offsetY + WORLD_HEIGHT * scale);
+    }
+
+    /**
+     * This method is used to convert an x position in world units to a position on the surface.
+     * @param x This is a float parameter as the x position in world units.
+     * @return float The x position on the surface.
+     */
+    public float toScreenX(float x) {
+        return offsetX + x * scale;
+    }
+
+    /**
+     * This method is used to convert a y position in world units to a position on the surface.
+     * @param y This is a float parameter as the y position in world units.
+     * @return float The y position on the surface.
+     */
+    public float toScreenY(float y) {
+        return offsetY + y * scale;
+    }
+
+    /**
+     * This method is used to bring an x position which is just outside the left or right boundary of
+     * the game field back in from the opposite side.
+     * @param x This is an int parameter as the x position in world units.
+     * @return int The x position inside the game field.
+     */
+    public static int wrapX(int x) {
+        if (x < 0) {
+            return x + WORLD_WIDTH;
+        }
+        if (x > WORLD_WIDTH) {
+            return x - WORLD_WIDTH;
+        }
+        return x;
+    }
+}
@@ -1,20 +1,33 @@
 package view;
 
+import android.content.Context;
 import android.graphics.Canvas;
+import android.os.Looper;
+import android.view.Choreographer;
 import android.view.SurfaceHolder;
+import android.view.WindowManager;
 
 /**
- * This class is used to define a Thread to run the drawing actions.
+ * This class is used to define a Thread to run the drawing actions. Frames are driven by the display
+ * vsync and drawn on every n-th vsync to hold the target frame rate of the current quality tier.
+ * The duration of each frame is reported to a QualityGovernor.
  *
  * @author Shuai Yuan
  * @version 1.1
  * @since 2016-05-20
  */
-public class AnimationThread extends Thread {
+public class AnimationThread extends Thread implements Choreographer.FrameCallback {
+
+    private static final long SIMULATION_STEP_NANOS = 1000000000L / QualityGovernor.BASE_FPS;
+    private static final int MAX_SIMULATION_STEPS = 4;
 
     private AnimationView mAnimView;
     private SurfaceHolder mHolder;
     private Boolean mRunning = false;
+    private QualityGovernor mGovernor;
+    private float mRefreshRate;
+    private long mVsyncNanos;
+    private long mLastFrameTime, mSimulationNanos;
 
     /**
      * This constructor method is used to set up the relationship between this Thread and the SurfaceView
@@ -25,6 +38,10 @@ public class AnimationThread extends Thread {
         super();
         this.mAnimView = animView;
         this.mHolder = animView.getHolder();
+        WindowManager windowManager = (WindowManager) animView.getContext().getSystemService(Context.WINDOW_SERVICE);
+        this.mRefreshRate = windowManager.getDefaultDisplay().getRefreshRate();
+        this.mVsyncNanos = (long) (1000000000L / mRefreshRate);
+        this.mGovernor = new QualityGovernor(QualityGovernor.DEFAULT_TIERS, mRefreshRate);
     }
 
     /**
@@ -35,28 +52,96 @@ public class AnimationThread extends Thread {
     }
 
     /**
-     * This method is used to run the Thread.
+     * This method is used to get the governor which decides the quality tier of the drawing.
+     * @return QualityGovernor The governor fed by this Thread.
+     */
+    public QualityGovernor getGovernor() {
+        return mGovernor;
+    }
+
+    /**
+     * This method is used to run the Thread. It waits for vsync callbacks until it is stopped.
      */
     @Override
     public void run() {
         super.run();
 
-        Canvas canvas;
+        Looper.prepare();
+        Choreographer.getInstance().postFrameCallback(this);
+        Looper.loop();
+    }
+
+    /**
+     * This method is used to draw a frame on every n-th vsync, n being the number of vsync intervals
+     * one frame of the current tier lasts, so every frame stays on screen for the same time.
+     * @param frameTimeNanos This is a long parameter as the time of the vsync in nanoseconds.
+     */
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!mRunning) {
+            Looper.myLooper().quit();
+            return;
+        }
+        Choreographer.getInstance().postFrameCallback(this);
+
+        int vsyncInterval = mGovernor.getVsyncInterval();
+        if (mLastFrameTime != 0 && frameTimeNanos - mLastFrameTime < (vsyncInterval - 0.5) * mVsyncNanos) {
+            return;
+        }
 
-        while (mRunning) {
-            canvas = null;
-            try {
-                canvas = mHolder.lockCanvas();
-                synchronized (mHolder) {
+        //Run one simulation step per BASE_FPS interval since the last frame so the spacecraft keeps its speed.
+        //When interpolating, only whole steps are run and the spacecraft is drawn the leftover fraction of
+        //the way into the next one. Otherwise the steps are rounded so every frame runs the same number.
+        boolean interpolate = mGovernor.getCurrentTier().interpolate;
+        int steps = 1;
+        float interpolation = 1;
+        if (mLastFrameTime != 0) {
+            mSimulationNanos += frameTimeNanos - mLastFrameTime;
+            if (interpolate) {
+                steps = (int) (mSimulationNanos / SIMULATION_STEP_NANOS);
+            }
+            else {
+                steps = (int) Math.round((double) mSimulationNanos / SIMULATION_STEP_NANOS);
+            }
+            mSimulationNanos -= steps * SIMULATION_STEP_NANOS;
+            steps = Math.min(steps, MAX_SIMULATION_STEPS);
+            if (interpolate) {
+                //The leftover can be negative just after switching from a tier which rounds its steps.
+                interpolation = Math.max(0, Math.min(1, (float) mSimulationNanos / SIMULATION_STEP_NANOS));
+            }
+        }
+        mLastFrameTime = frameTimeNanos;
+
+        drawFrame(steps, interpolation);
+    }
+
+    /**
+     * This method is used to update and draw one frame and report its duration to the governor.
+     * @param steps This is an int parameter as the number of simulation steps to run before drawing.
+     * @param interpolation This is a float parameter as the fraction of a simulation step to draw the spacecraft at.
+     */
+    private void drawFrame(int steps, float interpolation) {
+        Canvas canvas = null;
+        long frameStart = System.nanoTime();
+        try {
+            canvas = mHolder.lockCanvas();
+            synchronized (mHolder) {
+                for (int i = 0; i < steps; i++) {
                     mAnimView.update();
-                    mAnimView.render(canvas);
                 }
+                mAnimView.render(canvas, interpolation);
             }
-            finally {
-                if (canvas != null) {
-                    mHolder.unlockCanvasAndPost(canvas);
-                }
+        }
+        finally {
+            if (canvas != null) {
+                mHolder.unlockCanvasAndPost(canvas);
             }
         }
+        //Include locking and posting the canvas, where buffer back-pressure and the surface copy show up.
+        //Report under the lock, a tier change writes the quality settings the model reads while drawing.
+        long frameNanos = System.nanoTime() - frameStart;
+        synchronized (mHolder) {
+            mGovernor.addFrame(frameNanos);
+        }
     }
 }
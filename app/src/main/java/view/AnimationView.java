@@ -6,6 +6,7 @@ import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.PixelFormat;
 import android.util.AttributeSet;
+import android.util.Log;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 
@@ -20,6 +21,8 @@ import model.AnimationModel;
  */
 public class AnimationView extends SurfaceView implements SurfaceHolder.Callback {
 
+    private static final String TAG = "AnimationView";
+
     private AnimationThread mAnimTread;
     private AnimationModel mAnimModel;
 
@@ -35,6 +38,14 @@ public class AnimationView extends SurfaceView implements SurfaceHolder.Callback
         getHolder().addCallback(this);
         getHolder().setFormat(PixelFormat.TRANSPARENT);
         mAnimTread = new AnimationThread(this);
+        mAnimTread.getGovernor().setOnTierChangeListener(new QualityGovernor.OnTierChangeListener() {
+            @Override
+            public void onTierChanged(QualityGovernor.Tier from, QualityGovernor.Tier to, long averageNanos) {
+                Log.i(TAG, "Quality tier " + from + " -> " + to + " (average frame " + averageNanos / 1000 + " us, now "
+                        + getGovernor().getEffectiveFps() + " fps)");
+                applyQualityTier(to);
+            }
+        });
     }
 
     public AnimationView(Context context) {
@@ -42,15 +53,18 @@ public class AnimationView extends SurfaceView implements SurfaceHolder.Callback
     }
 
     /**
-     * This method is not used currently.
+     * This method is used to pass the new size of the surface to the AnimationModel, which computes
+     * the world-to-screen transform and scales its images for it.
      * @param holder This is an SurfaceHolder parameter.
      * @param format This is an int parameter.
-     * @param width This is an int parameter.
-     * @param height This is an int parameter.
+     * @param width This is an int parameter as the new width of the surface.
+     * @param height This is an int parameter as the new height of the surface.
      */
     @Override
     public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
-
+        synchronized (holder) {
+            mAnimModel.setScreenSize(width, height);
+        }
     }
 
     /**
@@ -60,12 +74,6 @@ public class AnimationView extends SurfaceView implements SurfaceHolder.Callback
      */
     @Override
     public void surfaceCreated(SurfaceHolder holder) {
-        int width = this.getWidth();
-        int height = this.getHeight();
-        int position = width / 2 - 24;
-
-        mAnimModel.setScreenWidth(width);
-        mAnimModel.setPosX(position);
         mAnimModel.initPath();
         mAnimTread.setRunning(true);
         mAnimTread.start();
@@ -105,9 +113,10 @@ public class AnimationView extends SurfaceView implements SurfaceHolder.Callback
     /**
      * This method is used to draw result on a canvas object.
      * @param canvas This is an Canvas parameter to which the result will be drawn.
+     * @param interpolation This is a float parameter as the fraction of a simulation step to draw the spacecraft at.
      */
-    public void render(Canvas canvas) {
-            mAnimModel.draw(canvas);
+    public void render(Canvas canvas, float interpolation) {
+            mAnimModel.draw(canvas, interpolation);
     }
 
     /**
@@ -130,5 +139,22 @@ public class AnimationView extends SurfaceView implements SurfaceHolder.Callback
      */
     public void setModel(AnimationModel model) {
         mAnimModel = model;
+        applyQualityTier(mAnimTread.getGovernor().getCurrentTier());
+    }
+
+    /**
+     * This method is used to get the governor which decides the quality tier of the animation.
+     * @return QualityGovernor The governor of the animation thread.
+     */
+    public QualityGovernor getGovernor() {
+        return mAnimTread.getGovernor();
+    }
+
+    /**
+     * This method is used to pass the settings of a quality tier to the AnimationModel.
+     * @param tier This is a Tier parameter whose settings will be applied.
+     */
+    private void applyQualityTier(QualityGovernor.Tier tier) {
+        mAnimModel.setQuality(tier.wrapAroundEffects, tier.maxFlames);
     }
 }
@@ -0,0 +1,225 @@
+package view;
+
+/**
+ * This class is used to define a QualityGovernor which watches a rolling window of measured frame
+ * durations and steps the rendering quality up or down so the animation keeps its target frame rate.
+ * A tier is only lowered once a full window of frames misses the budget of the current tier, and only
+ * raised once a full window of frames fits comfortably within the budget of the tier above it.
+ */
+public class QualityGovernor {
+
+    public static final int BASE_FPS = 60;
+    public static final int WINDOW_SIZE = 30;
+    public static final double DOWNGRADE_RATIO = 1.0;
+    public static final double UPGRADE_RATIO = 0.5;
+
+    // Lets a panel slightly under its nominal rate, e.g. 59.94 Hz, still show every other vsync at 30 fps.
+    private static final float REFRESH_TOLERANCE = 0.05f;
+
+    /**
+     * This interface is used to notify a listener whenever the governor switches to another tier.
+     */
+    public interface OnTierChangeListener {
+        void onTierChanged(Tier from, Tier to, long averageNanos);
+    }
+
+    /**
+     * This class is used to define one quality tier and the settings the renderer should apply for it.
+     */
+    public static final class Tier {
+
+        public final String name;
+        public final int targetFps;
+        public final boolean wrapAroundEffects;
+        public final int maxFlames;
+        public final boolean interpolate;
+
+        /**
+         * This constructor method is used to define the settings of a quality tier.
+         * @param name This is a String parameter used to identify the tier in logs.
+         * @param targetFps This is an int parameter as the lowest frame rate the tier should keep.
+         * @param wrapAroundEffects This is a boolean parameter to decide whether flames are drawn on the wrap-around copy.
+         * @param maxFlames This is an int parameter as the maximum number of flame sprites drawn per frame.
+         * @param interpolate This is a boolean parameter to decide whether the spacecraft is drawn between
+         *                    simulation steps instead of at the last one.
+         */
+        public Tier(String name, int targetFps, boolean wrapAroundEffects, int maxFlames, boolean interpolate) {
+            this.name = name;
+            this.targetFps = targetFps;
+            this.wrapAroundEffects = wrapAroundEffects;
+            this.maxFlames = maxFlames;
+            this.interpolate = interpolate;
+        }
+
+        /**
+         * This method is used to get the number of vsync intervals one frame of this tier lasts. It is
+         * the largest interval which still reaches the target frame rate, and at least one.
+         * @param refreshRate This is a float parameter as the refresh rate of the display in Hz.
+         * @return int The number of vsync intervals per frame.
+         */
+        public int getVsyncInterval(float refreshRate) {
+            return Math.max(1, (int) Math.floor(refreshRate / targetFps + REFRESH_TOLERANCE));
+        }
+
+        /**
+         * This method is used to get the time budget of one frame in this tier on the given display.
+         * @param refreshRate This is a float parameter as the refresh rate of the display in Hz.
+         * @return long The frame budget in nanoseconds.
+         */
+        public long getFrameNanos(float refreshRate) {
+            return (long) (getVsyncInterval(refreshRate) * 1000000000.0 / refreshRate);
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    public static final Tier[] DEFAULT_TIERS = {
+            new Tier("HIGH", 60, true, 3, true),
+            new Tier("MEDIUM", 30, false, 2, false),
+            new Tier("LOW", 20, false, 1, false)
+    };
+
+    private final Tier[] tiers;
+    private final float refreshRate;
+    private final long[] frameNanos = new long[WINDOW_SIZE];
+    private int frameCount, frameIndex;
+    private long frameTotal;
+    private int tierIndex;
+    private int transitionCount;
+    private OnTierChangeListener listener;
+
+    /**
+     * This constructor method is used to create a governor with the default tiers for a BASE_FPS display,
+     * starting at the highest tier.
+     */
+    public QualityGovernor() {
+        this(DEFAULT_TIERS, BASE_FPS);
+    }
+
+    /**
+     * This constructor method is used to create a governor with the given tiers, starting at the highest one.
+     * @param tiers This is a Tier array parameter ordered from the highest to the lowest quality.
+     * @param refreshRate This is a float parameter as the refresh rate of the display in Hz.
+     */
+    public QualityGovernor(Tier[] tiers, float refreshRate) {
+        if (tiers.length == 0) {
+            throw new IllegalArgumentException("At least one tier is required");
+        }
+        if (refreshRate <= 0) {
+            throw new IllegalArgumentException("Refresh rate must be positive: " + refreshRate);
+        }
+        this.tiers = tiers;
+        this.refreshRate = refreshRate;
+    }
+
+    /**
+     * This method is used to record the duration of a frame and switch tiers if the rolling window
+     * shows the current tier is either too expensive or cheap enough to step up.
+     * @param nanos This is a long parameter as the time spent on the frame in nanoseconds.
+     * @return boolean If the tier changed, return "true".
+     */
+    public boolean addFrame(long nanos) {
+        if (frameCount == WINDOW_SIZE) {
+            frameTotal -= frameNanos[frameIndex];
+        }
+        else {
+            frameCount++;
+        }
+        frameNanos[frameIndex] = nanos;
+        frameTotal += nanos;
+        frameIndex = (frameIndex + 1) % WINDOW_SIZE;
+
+        if (frameCount < WINDOW_SIZE) {
+            return false;
+        }
+
+        long average = getAverageFrameNanos();
+        if (tierIndex < tiers.length - 1
+                && average > tiers[tierIndex].getFrameNanos(refreshRate) * DOWNGRADE_RATIO) {
+            changeTier(tierIndex + 1, average);
+            return true;
+        }
+        if (tierIndex > 0
+                && average < tiers[tierIndex - 1].getFrameNanos(refreshRate) * UPGRADE_RATIO) {
+            changeTier(tierIndex - 1, average);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * This method is used to switch to another tier and restart the rolling window, so the next
+     * decision is only based on frames drawn with the new settings.
+     */
+    private void changeTier(int index, long average) {
+        Tier from = tiers[tierIndex];
+        tierIndex = index;
+        transitionCount++;
+        frameCount = 0;
+        frameIndex = 0;
+        frameTotal = 0;
+        if (listener != null) {
+            listener.onTierChanged(from, tiers[tierIndex], average);
+        }
+    }
+
+    /**
+     * This method is used to get the average duration of the frames in the rolling window.
+     * @return long The average frame duration in nanoseconds, or 0 if no frame has been recorded.
+     */
+    public long getAverageFrameNanos() {
+        return frameCount == 0 ? 0 : frameTotal / frameCount;
+    }
+
+    /**
+     * This method is used to get the tier currently in use.
+     * @return Tier The current tier.
+     */
+    public Tier getCurrentTier() {
+        return tiers[tierIndex];
+    }
+
+    /**
+     * This method is used to get the number of vsync intervals a frame of the current tier lasts.
+     * @return int The number of vsync intervals per frame.
+     */
+    public int getVsyncInterval() {
+        return tiers[tierIndex].getVsyncInterval(refreshRate);
+    }
+
+    /**
+     * This method is used to get the frame rate actually drawn in the current tier, which may be above
+     * its target when the refresh rate is not a multiple of it.
+     * @return float The effective frame rate in frames per second.
+     */
+    public float getEffectiveFps() {
+        return refreshRate / getVsyncInterval();
+    }
+
+    /**
+     * This method is used to get the position of the current tier, 0 being the highest quality.
+     * @return int The index of the current tier.
+     */
+    public int getTierIndex() {
+        return tierIndex;
+    }
+
+    /**
+     * This method is used to get how many times the governor has switched tiers.
+     * @return int The number of transitions so far.
+     */
+    public int getTransitionCount() {
+        return transitionCount;
+    }
+
+    /**
+     * This method is used to set a listener which will be notified of every tier transition.
+     * @param listener This is an OnTierChangeListener parameter, or null to remove the listener.
+     */
+    public void setOnTierChangeListener(OnTierChangeListener listener) {
+        this.listener = listener;
+    }
+}
@@ -0,0 +1,76 @@
+package model;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class WorldTransformTest {
+
+    private static final float DELTA = 0.001f;
+
+    @Test
+    public void fitsExactSurface() throws Exception {
+        WorldTransform transform = new WorldTransform(WorldTransform.WORLD_WIDTH * 2, WorldTransform.WORLD_HEIGHT * 2);
+        assertEquals(2.0f, transform.scale, DELTA);
+        assertEquals(0.0f, transform.offsetX, DELTA);
+        assertEquals(0.0f, transform.offsetY, DELTA);
+        assertEquals(200.0f, transform.toScreenX(100), DELTA);
+        assertEquals(200.0f, transform.toScreenY(100), DELTA);
+    }
+
+    @Test
+    public void centersFieldOnWideSurface() throws Exception {
+        WorldTransform transform = new WorldTransform(WorldTransform.WORLD_WIDTH * 2, WorldTransform.WORLD_HEIGHT);
+        assertEquals(1.0f, transform.scale, DELTA);
+        assertEquals(WorldTransform.WORLD_WIDTH / 2, transform.left);
+        assertEquals(WorldTransform.WORLD_WIDTH * 3 / 2, transform.right);
+        assertEquals(0, transform.top);
+        assertEquals(WorldTransform.WORLD_HEIGHT, transform.bottom);
+        assertEquals(WorldTransform.WORLD_WIDTH / 2, transform.toScreenX(0), DELTA);
+        assertEquals(0.0f, transform.toScreenY(0), DELTA);
+    }
+
+    @Test
+    public void centersFieldOnTallSurface() throws Exception {
+        WorldTransform transform = new WorldTransform(WorldTransform.WORLD_WIDTH, WorldTransform.WORLD_HEIGHT * 2);
+        assertEquals(1.0f, transform.scale, DELTA);
+        assertEquals(0, transform.left);
+        assertEquals(WorldTransform.WORLD_WIDTH, transform.right);
+        assertEquals(WorldTransform.WORLD_HEIGHT / 2, transform.top);
+        assertEquals(WorldTransform.WORLD_HEIGHT * 3 / 2, transform.bottom);
+        assertEquals(0.0f, transform.toScreenX(0), DELTA);
+        assertEquals(WorldTransform.WORLD_HEIGHT / 2, transform.toScreenY(0), DELTA);
+    }
+
+    @Test
+    public void shrinksFieldOnSmallSurface() throws Exception {
+        WorldTransform transform = new WorldTransform(WorldTransform.WORLD_WIDTH / 2, WorldTransform.WORLD_HEIGHT);
+        assertEquals(0.5f, transform.scale, DELTA);
+        assertEquals(0, transform.left);
+        assertEquals(WorldTransform.WORLD_WIDTH / 2, transform.right);
+        assertEquals(WorldTransform.WORLD_HEIGHT / 4.0f, transform.offsetY, DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsEmptySurface() throws Exception {
+        new WorldTransform(0, WorldTransform.WORLD_HEIGHT);
+    }
+
+    @Test
+    public void wrapsPastLeftBoundary() throws Exception {
+        assertEquals(WorldTransform.WORLD_WIDTH - 45, WorldTransform.wrapX(-45));
+        assertEquals(39, WorldTransform.wrapX(39));
+    }
+
+    @Test
+    public void wrapsPastRightBoundary() throws Exception {
+        assertEquals(43, WorldTransform.wrapX(WorldTransform.WORLD_WIDTH + 43));
+        assertEquals(WorldTransform.WORLD_WIDTH - 41, WorldTransform.wrapX(WorldTransform.WORLD_WIDTH - 41));
+    }
+
+    @Test
+    public void keepsBoundariesInPlace() throws Exception {
+        assertEquals(0, WorldTransform.wrapX(0));
+        assertEquals(WorldTransform.WORLD_WIDTH, WorldTransform.wrapX(WorldTransform.WORLD_WIDTH));
+    }
+}
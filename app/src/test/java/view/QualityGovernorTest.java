@@ -0,0 +1,112 @@
+package view;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class QualityGovernorTest {
+
+    private static final long HIGH_BUDGET = 1000000000L / 60;
+
+    private static boolean feed(QualityGovernor governor, long nanos, int frames) {
+        boolean changed = false;
+        for (int i = 0; i < frames; i++) {
+            changed |= governor.addFrame(nanos);
+        }
+        return changed;
+    }
+
+    @Test
+    public void startsAtHighestTier() throws Exception {
+        QualityGovernor governor = new QualityGovernor();
+        assertEquals(0, governor.getTierIndex());
+        assertEquals(60, governor.getCurrentTier().targetFps);
+        assertTrue(governor.getCurrentTier().interpolate);
+    }
+
+    @Test
+    public void stepsDownOnlyAfterFullWindowOfSlowFrames() throws Exception {
+        QualityGovernor governor = new QualityGovernor();
+        assertFalse(feed(governor, HIGH_BUDGET * 2, QualityGovernor.WINDOW_SIZE - 1));
+        assertEquals(0, governor.getTierIndex());
+        assertTrue(governor.addFrame(HIGH_BUDGET * 2));
+        assertEquals(1, governor.getTierIndex());
+        assertEquals(30, governor.getCurrentTier().targetFps);
+        assertFalse(governor.getCurrentTier().interpolate);
+    }
+
+    @Test
+    public void holdsTierInsideHysteresisBand() throws Exception {
+        QualityGovernor governor = new QualityGovernor();
+        feed(governor, HIGH_BUDGET * 2, QualityGovernor.WINDOW_SIZE);
+        assertEquals(1, governor.getTierIndex());
+        // Fits the MEDIUM budget but is too close to the HIGH budget to step up.
+        assertFalse(feed(governor, HIGH_BUDGET * 3 / 4, QualityGovernor.WINDOW_SIZE * 4));
+        assertEquals(1, governor.getTierIndex());
+    }
+
+    @Test
+    public void stepsUpWhenFramesAreCheap() throws Exception {
+        QualityGovernor governor = new QualityGovernor();
+        feed(governor, HIGH_BUDGET * 2, QualityGovernor.WINDOW_SIZE);
+        assertTrue(feed(governor, HIGH_BUDGET / 4, QualityGovernor.WINDOW_SIZE));
+        assertEquals(0, governor.getTierIndex());
+        assertEquals(2, governor.getTransitionCount());
+    }
+
+    @Test
+    public void neverLeavesTierRange() throws Exception {
+        QualityGovernor governor = new QualityGovernor();
+        feed(governor, HIGH_BUDGET * 10, QualityGovernor.WINDOW_SIZE * 10);
+        assertEquals(QualityGovernor.DEFAULT_TIERS.length - 1, governor.getTierIndex());
+        feed(governor, 0, QualityGovernor.WINDOW_SIZE * 10);
+        assertEquals(0, governor.getTierIndex());
+    }
+
+    @Test
+    public void usesLargestVsyncIntervalThatMeetsTarget() throws Exception {
+        QualityGovernor.Tier high = QualityGovernor.DEFAULT_TIERS[0];
+        QualityGovernor.Tier medium = QualityGovernor.DEFAULT_TIERS[1];
+        QualityGovernor.Tier low = QualityGovernor.DEFAULT_TIERS[2];
+        assertEquals(1, high.getVsyncInterval(60));
+        assertEquals(1, high.getVsyncInterval(90));
+        assertEquals(2, high.getVsyncInterval(120));
+        assertEquals(2, high.getVsyncInterval(144));
+        assertEquals(2, medium.getVsyncInterval(59.94f));
+        assertEquals(3, medium.getVsyncInterval(90));
+        assertEquals(3, low.getVsyncInterval(60));
+        assertEquals(1, low.getVsyncInterval(15));
+    }
+
+    @Test
+    public void reportsEffectiveFrameRate() throws Exception {
+        assertEquals(90.0f, new QualityGovernor(QualityGovernor.DEFAULT_TIERS, 90).getEffectiveFps(), 0.001f);
+        assertEquals(72.0f, new QualityGovernor(QualityGovernor.DEFAULT_TIERS, 144).getEffectiveFps(), 0.001f);
+    }
+
+    @Test
+    public void budgetFollowsVsyncInterval() throws Exception {
+        long frame = 1000000000L / 75;
+        QualityGovernor at60 = new QualityGovernor(QualityGovernor.DEFAULT_TIERS, 60);
+        QualityGovernor at90 = new QualityGovernor(QualityGovernor.DEFAULT_TIERS, 90);
+        assertFalse(feed(at60, frame, QualityGovernor.WINDOW_SIZE));
+        assertTrue(feed(at90, frame, QualityGovernor.WINDOW_SIZE));
+        assertEquals(30.0f, at90.getEffectiveFps(), 0.001f);
+    }
+
+    @Test
+    public void notifiesListenerOfTransitions() throws Exception {
+        QualityGovernor governor = new QualityGovernor();
+        final QualityGovernor.Tier[] seen = new QualityGovernor.Tier[2];
+        governor.setOnTierChangeListener(new QualityGovernor.OnTierChangeListener() {
+            @Override
+            public void onTierChanged(QualityGovernor.Tier from, QualityGovernor.Tier to, long averageNanos) {
+                seen[0] = from;
+                seen[1] = to;
+            }
+        });
+        feed(governor, HIGH_BUDGET * 2, QualityGovernor.WINDOW_SIZE);
+        assertSame(QualityGovernor.DEFAULT_TIERS[0], seen[0]);
+        assertSame(QualityGovernor.DEFAULT_TIERS[1], seen[1]);
+    }
+}